@@ -0,0 +1,32 @@
+package com.poc.orders.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    private static final String APPLICATION_PACKAGE = "com.poc.orders.";
+
+    /**
+     * With spring.main.lazy-initialization=true (prod profile) only non-essential beans, such as library
+     * auto-configuration the app does not use on every request, are created on first use.
+     * The application's own beans and the data source, JPA, MVC and health infrastructure still start
+     * eagerly, so wiring errors fail the startup and the first requests do not pay for their creation.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (beanType.getName().startsWith(APPLICATION_PACKAGE)
+                || DataSource.class.isAssignableFrom(beanType)
+                || EntityManagerFactory.class.isAssignableFrom(beanType)
+                || DispatcherServlet.class.isAssignableFrom(beanType)
+                || HealthEndpoint.class.isAssignableFrom(beanType));
+    }
+}
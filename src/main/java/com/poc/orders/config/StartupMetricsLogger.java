@@ -0,0 +1,63 @@
+package com.poc.orders.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@Component
+@Slf4j
+public class StartupMetricsLogger {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private volatile long startedUptimeMillis;
+
+    /**
+     * Logs the JVM uptime and resident memory once the context is refreshed, so that
+     * startup of the default and the prod (AOT + CDS) setups can be compared.
+     * Unlike Spring's own "Started ... in" line, the uptime includes JVM boot and class loading.
+     * ApplicationRunners, and with them the warm-up, have not run yet at this point.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void logStartupMetrics() {
+        startedUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Application started: JVM uptime {} ms, resident memory {}", startedUptimeMillis, residentMemory());
+    }
+
+    /**
+     * Logs when the application is ready for traffic, with the time spent in ApplicationRunners
+     * (mostly the warm-up) reported separately from startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void logReadyMetrics() {
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Application ready: JVM uptime {} ms, runners and warm-up {} ms, resident memory {}",
+                uptimeMillis, uptimeMillis - startedUptimeMillis, residentMemory());
+    }
+
+    private String residentMemory() {
+        // VmRSS is only available on Linux, fall back to the used heap elsewhere
+        if (Files.isReadable(PROC_STATUS)) {
+            try {
+                List<String> lines = Files.readAllLines(PROC_STATUS);
+                for (String line : lines) {
+                    if (line.startsWith("VmRSS:")) {
+                        return line.substring("VmRSS:".length()).trim();
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Could not read {}: {}", PROC_STATUS, e.getMessage());
+            }
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024 + " kB (heap)";
+    }
+}
@@ -2,16 +2,21 @@ package com.poc.orders.controller;
 
 import com.poc.orders.entities.Orders;
 import com.poc.orders.exception.OrderNotFoundException;
+import com.poc.orders.service.OrderChangeStream;
 import com.poc.orders.service.OrdersService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.poc.orders.response.ErrorResponse;
+import com.poc.orders.response.OrderLookupResult;
 
 import java.util.List;
 
@@ -23,9 +28,15 @@ public class OrdersController {
     @Autowired
     private OrdersService ordersService;
 
+    @Autowired
+    private OrderChangeStream orderChangeStream;
+
     private static final String ORDER_NOT_FOUND_MESSAGE = "Order with ID %d not found"; // Define a format string
     private static final String UNEXPECTED_ERROR_OCCURRED = "An unexpected error occurred.";
 
+    @Value("${orders.lookup.max-ids:500}")
+    private int maxLookupIds = 500;
+
     /**
      * This method handles the POST request to add a new order.
      * It receives an order object in the request body, sends it to the service layer
@@ -177,6 +188,61 @@ public class OrdersController {
     }
 
 
+    /**
+     * This endpoint retrieves many orders in one round trip, e.g. GET /orders?ids=3,1,7.
+     * The result has one entry per requested id, in request order. Missing orders are reported
+     * inline with found=false instead of a 404.
+     *
+     * @param ids the IDs of the orders to retrieve
+     * @return ResponseEntity containing the lookup results or an error message
+     */
+    @Operation(summary = "Get Orders by IDs", description = "Retrieve many orders by their IDs in one request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed, missing orders have found=false"),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getOrdersByIds(@RequestParam(value = "ids") List<Integer> ids) {
+        return lookupOrders(ids);
+    }
+
+    /**
+     * Same as GET /orders?ids=... with the IDs sent as a JSON array in the request body,
+     * for ID lists that are too long for a URL.
+     *
+     * @param ids the IDs of the orders to retrieve
+     * @return ResponseEntity containing the lookup results or an error message
+     */
+    @Operation(summary = "Look up Orders by IDs", description = "Retrieve many orders by the IDs sent in the request body.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed, missing orders have found=false"),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<Object> lookupOrdersByIds(@RequestBody List<Integer> ids) {
+        return lookupOrders(ids);
+    }
+
+    private ResponseEntity<Object> lookupOrders(List<Integer> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > maxLookupIds || ids.contains(null)) {
+            String errorMessage = "Invalid lookup: between 1 and " + maxLookupIds + " order IDs are required.";
+            log.error(errorMessage);
+            ErrorResponse errorResponse = new ErrorResponse(errorMessage, 400);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse); // 400 Bad Request with error response
+        }
+        try {
+            List<OrderLookupResult> results = ordersService.getOrdersByIds(ids);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            log.error("Unexpected error occurred while looking up orders: {}", e.getMessage());
+            ErrorResponse errorResponse = new ErrorResponse(UNEXPECTED_ERROR_OCCURRED, 500);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse); // 500 Internal Server Error with error response
+        }
+    }
+
+
     /**
      * This endpoint updates an existing order by its ID.
      * If the order is found, it returns the updated order details with a 200 OK status.
@@ -240,4 +306,25 @@ public class OrdersController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse); // 500 Internal Server Error with error response
         }
     }
+
+    /**
+     * This endpoint streams order changes (create, update, delete) as Server-Sent Events.
+     * Each event id is the change offset. A client resumes after a disconnect by sending the last
+     * received id in the Last-Event-ID header (browsers do this automatically) or the since parameter.
+     * Without either, only changes made after subscribing are sent.
+     *
+     * @param lastEventId the offset of the last event the client received, sent on reconnect
+     * @param since       the offset to resume from, used when Last-Event-ID is not sent
+     * @return SseEmitter that receives the change events
+     */
+    @Operation(summary = "Stream order changes", description = "Server-Sent Events stream of order changes with resume from offset.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Change stream opened")
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "since", required = false) Long since) {
+        return orderChangeStream.subscribe(lastEventId != null ? lastEventId : since);
+    }
 }
@@ -0,0 +1,40 @@
+package com.poc.orders.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * Outbox row written in the same transaction as the order change it describes.
+ * The event id is the stream offset that clients resume from.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_events")
+public class OrderEvent {
+
+    @Id
+    @Column(name = "Event_id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long eventid;
+
+    @Column(name = "Order_id")
+    private int orderid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Event_type", length = 32)
+    private OrderEventType eventtype;
+
+    @Lob
+    @Column(name = "Payload")
+    private String payload;
+
+    @Column(name = "Created_at")
+    private Timestamp createdat;
+
+}
@@ -0,0 +1,7 @@
+package com.poc.orders.entities;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_UPDATED,
+    ORDER_DELETED
+}
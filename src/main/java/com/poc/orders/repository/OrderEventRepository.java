@@ -0,0 +1,29 @@
+package com.poc.orders.repository;
+
+import com.poc.orders.entities.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    // Next page of the change stream after the given offset
+    List<OrderEvent> findTop500ByEventidGreaterThanOrderByEventidAsc(long eventid);
+
+    // Latest event, where the poller and a new subscriber start
+    OrderEvent findTopByOrderByEventidDesc();
+
+    // Oldest event a resuming subscriber may still start from
+    OrderEvent findTopByCreatedatGreaterThanEqualOrderByEventidAsc(Timestamp createdat);
+
+    // Single bulk delete instead of loading every expired row
+    @Transactional
+    @Modifying
+    @Query("delete from OrderEvent e where e.createdat < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Timestamp cutoff);
+}
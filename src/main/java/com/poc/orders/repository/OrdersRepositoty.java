@@ -4,11 +4,16 @@ import com.poc.orders.entities.Orders;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 //@Repository
 public interface OrdersRepositoty extends JpaRepository<Orders, Integer> {
     Orders findByOrderid(int orderid);
-    void deleteByOrderid(int orderid);
 
     // New method to find by orderid and productname
     Orders findByOrderidAndProductname(int orderid, String productname);
+
+    // Multi-get, callers chunk the ids to keep the IN list bounded
+    List<Orders> findByOrderidIn(Collection<Integer> orderids);
 }
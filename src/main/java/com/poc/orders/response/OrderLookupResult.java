@@ -0,0 +1,15 @@
+package com.poc.orders.response;
+
+import com.poc.orders.entities.Orders;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderLookupResult {
+    private int orderid;
+    private boolean found;
+    private Orders order; // null when the order does not exist
+}
@@ -0,0 +1,353 @@
+package com.poc.orders.service;
+
+import com.poc.orders.entities.OrderEvent;
+import com.poc.orders.repository.OrderEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the order outbox as a Server-Sent Events stream.
+ * <p>
+ * One scheduled poller reads the outbox and appends new events to a shared in-memory buffer, so the
+ * database load does not grow with the number of subscribers. Event ids are assigned at insert but
+ * become visible at commit, so a lower id can show up after a higher one. The poller therefore only
+ * advances over consecutive ids: at a missing id it waits until the id appears, or until it has been
+ * missing for {@code orders.changes.gap-timeout-ms} (a rolled back write leaves a permanent gap).
+ * <p>
+ * A subscriber is a cursor (the last offset it was sent). Its events are sent by a task on a dedicated
+ * fan-out executor, from the buffer or, when it is further behind, page by page from the outbox.
+ * Idle subscribers hold no thread. A subscriber whose send blocks longer than
+ * {@code orders.changes.send-timeout-ms} is dropped, so one slow client cannot stall the others for long.
+ * The SSE event id is the outbox offset, clients resume by sending it back as Last-Event-ID.
+ */
+@Component
+@Slf4j
+public class OrderChangeStream {
+
+    static final int PAGE_SIZE = 500;
+    static final String RESYNC_EVENT = "RESYNC_REQUIRED";
+
+    // Events sent per fan-out task before the subscriber is rescheduled, keeps the executor fair
+    private static final int DRAIN_BATCH = 100;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Value("${orders.changes.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMillis = 1800000;
+
+    @Value("${orders.changes.retention-days:7}")
+    private long retentionDays = 7;
+
+    @Value("${orders.changes.gap-timeout-ms:30000}")
+    private long gapTimeoutMillis = 30000;
+
+    @Value("${orders.changes.max-resume-minutes:60}")
+    private long maxResumeMinutes = 60;
+
+    @Value("${orders.changes.buffer-size:10000}")
+    private int bufferSize = 10000;
+
+    @Value("${orders.changes.send-timeout-ms:5000}")
+    private long sendTimeoutMillis = 5000;
+
+    @Value("${orders.changes.fanout-threads:8}")
+    private int fanoutThreads = 8;
+
+    private Executor fanoutExecutor;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Events (bufferFloor, head], oldest are trimmed once bufferSize is exceeded
+    private final ConcurrentSkipListMap<Long, OrderEvent> buffer = new ConcurrentSkipListMap<>();
+    private final AtomicInteger bufferedEvents = new AtomicInteger();
+    private volatile long bufferFloor = -1;
+
+    // Highest offset read by the poller with no missing id below it, -1 until the first poll
+    private volatile long head = -1;
+
+    // Missing id right after head the poller is waiting for, and when it was first noticed (poller's clock)
+    private long waitingForId = -1;
+    private long waitingSince;
+
+    @PostConstruct
+    void startFanout() {
+        fanoutExecutor = Executors.newFixedThreadPool(Math.max(1, fanoutThreads));
+    }
+
+    @PreDestroy
+    void stopFanout() {
+        if (fanoutExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Registers a new subscriber at {@code sinceOffset}, or at the current head without an offset.
+     * Nothing is sent here: the backlog is sent by the fan-out executor from the next poll on, after
+     * the emitter has been handed to Spring MVC. Offsets older than {@code orders.changes.max-resume-minutes}
+     * resume from that limit and first receive a {@value #RESYNC_EVENT} event.
+     */
+    public SseEmitter subscribe(Long sinceOffset) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber;
+        if (sinceOffset == null) {
+            subscriber = new Subscriber(emitter, head >= 0 ? head : latestOffset());
+        } else {
+            long floor = oldestResumableOffset();
+            subscriber = new Subscriber(emitter, Math.max(sinceOffset, floor));
+            subscriber.resyncRequired = sinceOffset < floor;
+        }
+
+        // Completed or failed by Spring MVC, nothing left to do on the emitter
+        emitter.onCompletion(subscriber::remove);
+        emitter.onError(error -> subscriber.remove());
+        // A timed out emitter must still be completed, or the async request ends as an error
+        emitter.onTimeout(subscriber::close);
+
+        subscribers.add(subscriber);
+        log.info("Change stream subscriber added from offset {}, {} subscribers", subscriber.cursor, subscribers.size());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.changes.poll-interval-ms:1000}")
+    public void poll() {
+        if (head < 0) {
+            head = latestOffset();
+            bufferFloor = head;
+        }
+
+        // Keep paging while full pages come back, stop at a missing id that is still within the gap timeout
+        List<OrderEvent> page;
+        boolean pageConsumed;
+        do {
+            page = orderEventRepository.findTop500ByEventidGreaterThanOrderByEventidAsc(head);
+            pageConsumed = true;
+            for (OrderEvent event : page) {
+                if (event.getEventid() > head + 1 && !gapExpired()) {
+                    pageConsumed = false;
+                    break;
+                }
+                buffer.put(event.getEventid(), event);
+                bufferedEvents.incrementAndGet();
+                head = event.getEventid();
+            }
+            trimBuffer();
+        } while (pageConsumed && page.size() == PAGE_SIZE);
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor < head || subscriber.resyncRequired) {
+                subscriber.schedule();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.changes.heartbeat-ms:15000}")
+    public void heartbeat() {
+        // Comment lines keep proxies from closing idle connections and detect dead clients
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    @Scheduled(cron = "${orders.changes.cleanup-cron:0 0 3 * * *}")
+    public void deleteExpiredEvents() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - Duration.ofDays(retentionDays).toMillis());
+        int deleted = orderEventRepository.deleteOlderThan(cutoff);
+        log.info("Deleted {} order events older than {} days", deleted, retentionDays);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeoutMillis);
+    }
+
+    private boolean gapExpired() {
+        long missingId = head + 1;
+        long now = System.currentTimeMillis();
+        if (waitingForId != missingId) {
+            waitingForId = missingId;
+            waitingSince = now;
+        }
+        if (now - waitingSince < gapTimeoutMillis) {
+            return false;
+        }
+        log.warn("Change stream skips outbox id {}, missing for {} ms (rolled back or still uncommitted)",
+                missingId, now - waitingSince);
+        return true;
+    }
+
+    private void trimBuffer() {
+        while (bufferedEvents.get() > bufferSize) {
+            Long oldest = buffer.firstKey();
+            // Raise the floor before removing, so readers re-checking it notice the gap
+            bufferFloor = oldest;
+            buffer.remove(oldest);
+            bufferedEvents.decrementAndGet();
+        }
+    }
+
+    /**
+     * Events after {@code cursor}, from the buffer when it still covers the cursor,
+     * otherwise from the outbox (never past {@code head}, ids above it may still be missing).
+     */
+    private List<OrderEvent> eventsAfter(long cursor) {
+        if (cursor >= bufferFloor) {
+            List<OrderEvent> events = new ArrayList<>(buffer.tailMap(cursor, false).values());
+            if (cursor >= bufferFloor) {
+                return events.size() > DRAIN_BATCH ? events.subList(0, DRAIN_BATCH) : events;
+            }
+        }
+        long upTo = head;
+        List<OrderEvent> events = new ArrayList<>();
+        for (OrderEvent event : orderEventRepository.findTop500ByEventidGreaterThanOrderByEventidAsc(cursor)) {
+            if (event.getEventid() > upTo) {
+                break;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private long latestOffset() {
+        OrderEvent latest = orderEventRepository.findTopByOrderByEventidDesc();
+        return latest != null ? latest.getEventid() : 0;
+    }
+
+    private long oldestResumableOffset() {
+        Timestamp oldest = new Timestamp(System.currentTimeMillis() - Duration.ofMinutes(maxResumeMinutes).toMillis());
+        OrderEvent first = orderEventRepository.findTopByCreatedatGreaterThanEqualOrderByEventidAsc(oldest);
+        return first != null ? first.getEventid() - 1 : latestOffset();
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean heartbeatDue;
+        private volatile boolean resyncRequired;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        // At most one fan-out task per subscriber, so its sends never run concurrently
+        void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                fanoutExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                close();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.warn("Change stream delivery failed, closing subscriber: {}", e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // Re-check after clearing the flag, a poll in between may have skipped scheduling us
+            if (!closed && (cursor < head || heartbeatDue || resyncRequired)) {
+                schedule();
+            }
+        }
+
+        private void drain() {
+            if (resyncRequired) {
+                if (!send(SseEmitter.event().name(RESYNC_EVENT)
+                        .data("{\"resumedFrom\":" + cursor + "}", MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+                resyncRequired = false;
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                if (!send(SseEmitter.event().comment("keep-alive"))) {
+                    return;
+                }
+            }
+            for (OrderEvent event : eventsAfter(cursor)) {
+                boolean sent = send(SseEmitter.event()
+                        .id(String.valueOf(event.getEventid()))
+                        .name(event.getEventtype().name())
+                        .data(event.getPayload(), MediaType.APPLICATION_JSON));
+                if (!sent) {
+                    return;
+                }
+                cursor = event.getEventid();
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder builder) {
+            long startedAt = System.currentTimeMillis();
+            try {
+                emitter.send(builder);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, an ordinary event with thousands of subscribers
+                log.debug("Change stream subscriber disconnected: {}", e.getMessage());
+                close();
+                return false;
+            }
+            long elapsed = System.currentTimeMillis() - startedAt;
+            if (elapsed > sendTimeoutMillis) {
+                log.warn("Dropping slow change stream subscriber, send blocked for {} ms", elapsed);
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        boolean remove() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            subscribers.remove(this);
+            return true;
+        }
+
+        // Completes normally, completeWithError would dispatch into the error handling of a committed SSE response
+        void close() {
+            if (remove()) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.poc.orders.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.orders.entities.OrderEvent;
+import com.poc.orders.entities.OrderEventType;
+import com.poc.orders.entities.Orders;
+import com.poc.orders.repository.OrderEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+@Component
+@Slf4j
+public class OrderEventPublisher {
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Writes the change to the outbox table. Must run inside the transaction that changes the order,
+     * so an event exists if and only if the change was committed.
+     * The order is serialized once here, the change stream sends the stored JSON as is.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OrderEvent publish(OrderEventType eventType, Orders order) {
+        OrderEvent event = new OrderEvent();
+        event.setOrderid(order.getOrderid());
+        event.setEventtype(eventType);
+        event.setPayload(toJson(order));
+        event.setCreatedat(new Timestamp(System.currentTimeMillis()));
+
+        OrderEvent savedEvent = orderEventRepository.save(event);
+        log.debug("Recorded {} for order {} at offset {}", eventType, order.getOrderid(), savedEvent.getEventid());
+        return savedEvent;
+    }
+
+    private String toJson(Orders order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order " + order.getOrderid(), e);
+        }
+    }
+}
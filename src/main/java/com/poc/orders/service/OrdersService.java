@@ -1,6 +1,7 @@
 package com.poc.orders.service;
 
 import com.poc.orders.entities.Orders;
+import com.poc.orders.response.OrderLookupResult;
 
 import java.util.List;
 
@@ -18,6 +19,8 @@ public interface OrdersService {
 
     public Orders findByIdAndProductname(int orderid, String productname);
 
+    public List<OrderLookupResult> getOrdersByIds(List<Integer> orderids);
+
     default String getProductName(int orderid){
         return null;
     };
@@ -1,14 +1,21 @@
 package com.poc.orders.service;
 
+import com.poc.orders.entities.OrderEventType;
 import com.poc.orders.entities.Orders;
 import com.poc.orders.exception.OrderNotFoundException;
 import com.poc.orders.repository.OrdersRepositoty;
+import com.poc.orders.response.OrderLookupResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -17,9 +24,19 @@ public class OrdersServiceImpl implements OrdersService{
     @Autowired
     private OrdersRepositoty ordersRepositoty;
 
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Value("${orders.lookup.chunk-size:100}")
+    private int lookupChunkSize = 100;
+
     private static final String ORDER_NOT_FOUND_MESSAGE = "Order with ID %d not found"; // Define a format string
 
     @Override
+    @Transactional
     public Orders placeOrder(Orders orders) {
         // Check if the incoming order object is null
         if (orders == null) {
@@ -42,6 +59,7 @@ public class OrdersServiceImpl implements OrdersService{
 
         // Save the order and return the saved entity
         Orders savedOrder = ordersRepositoty.save(or);
+        orderEventPublisher.publish(OrderEventType.ORDER_CREATED, savedOrder);
 
         // Log a message indicating that the order has been successfully saved
         log.info("Order placed successfully: {}", savedOrder);
@@ -56,29 +74,59 @@ public class OrdersServiceImpl implements OrdersService{
 
     @Override
     public Orders getOrderById(int ordersid) {
-        Orders getData = ordersRepositoty.findByOrderid(ordersid);
-
-        if (getData != null){
-            return getData;
-        } else {
-            String errorMessage = String.format(ORDER_NOT_FOUND_MESSAGE, ordersid);
-            throw new OrderNotFoundException(errorMessage); // Or return null
-        }
+        // Concurrent lookups of the same id share one query and its result or exception
+        return requestCoalescer.execute(readKeyPrefix(ordersid) + "byId", () -> {
+            Orders getData = ordersRepositoty.findByOrderid(ordersid);
+
+            if (getData != null){
+                return getData;
+            } else {
+                String errorMessage = String.format(ORDER_NOT_FOUND_MESSAGE, ordersid);
+                throw new OrderNotFoundException(errorMessage); // Or return null
+            }
+        }, OrdersServiceImpl::copyOf);
     }
 
     @Override
     public Orders findByIdAndProductname(int orderid, String productname){
-        Orders getDataByIdAndName = ordersRepositoty.findByOrderidAndProductname(orderid, productname);
+        return requestCoalescer.execute(readKeyPrefix(orderid) + "byName:" + productname, () -> {
+            Orders getDataByIdAndName = ordersRepositoty.findByOrderidAndProductname(orderid, productname);
+
+            if (getDataByIdAndName != null) {
+                return getDataByIdAndName;
+            } else {
+                String errorMessage = String.format(ORDER_NOT_FOUND_MESSAGE + " or Product name " + productname, orderid);
+                throw new OrderNotFoundException(errorMessage);
+            }
+        }, OrdersServiceImpl::copyOf);
+    }
 
-        if (getDataByIdAndName != null) {
-            return getDataByIdAndName;
-        } else {
-            String errorMessage = String.format(ORDER_NOT_FOUND_MESSAGE + " or Product name " + productname, orderid);
-            throw new OrderNotFoundException(errorMessage);
+    @Override
+    public List<OrderLookupResult> getOrdersByIds(List<Integer> orderids) {
+        // Query each distinct id once, in chunks so the IN list stays bounded
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderids));
+        Map<Integer, Orders> foundOrders = new HashMap<>();
+        // A misconfigured chunk size of 0 or less would never advance, fall back to one id per query
+        int chunkSize = Math.max(1, lookupChunkSize);
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            for (Orders order : ordersRepositoty.findByOrderidIn(chunk)) {
+                foundOrders.put(order.getOrderid(), order);
+            }
+        }
+
+        // Answer in request order, missing ids are reported inline instead of throwing
+        List<OrderLookupResult> results = new ArrayList<>(orderids.size());
+        for (Integer orderid : orderids) {
+            Orders order = foundOrders.get(orderid);
+            results.add(new OrderLookupResult(orderid, order != null, order));
         }
+        log.info("Looked up {} orders, {} not found", orderids.size(), distinctIds.size() - foundOrders.size());
+        return results;
     }
 
     @Override
+    @Transactional
     public Orders updateOrderById(Orders updatedOrder, int orderid) {
         Orders existingOrder = ordersRepositoty.findByOrderid(orderid);
         if (existingOrder != null){
@@ -87,7 +135,11 @@ public class OrdersServiceImpl implements OrdersService{
             existingOrder.setOrderdate(updatedOrder.getOrderdate());
             existingOrder.setShippingaddress(updatedOrder.getShippingaddress());
 
-            return ordersRepositoty.save(existingOrder);
+            Orders savedOrder = ordersRepositoty.save(existingOrder);
+            orderEventPublisher.publish(OrderEventType.ORDER_UPDATED, savedOrder);
+            // Reads starting after the commit must not join a read that may still return the old row
+            requestCoalescer.evictAfterCommit(readKeyPrefix(orderid));
+            return savedOrder;
         } else{
             String errorMessage = String.format(ORDER_NOT_FOUND_MESSAGE, orderid);
             throw new OrderNotFoundException(errorMessage);
@@ -100,9 +152,22 @@ public class OrdersServiceImpl implements OrdersService{
         // check if the order exixt
         Orders existingOrder = ordersRepositoty.findByOrderid(orderid);
         if (existingOrder != null){
-            ordersRepositoty.deleteByOrderid(orderid);
+            // Remove the row loaded above, a derived deleteBy... query would select it a second time
+            ordersRepositoty.delete(existingOrder);
+            orderEventPublisher.publish(OrderEventType.ORDER_DELETED, existingOrder);
+            requestCoalescer.evictAfterCommit(readKeyPrefix(orderid));
         } else {
             throw new OrderNotFoundException("Order with ID " + orderid + " not found.");
         }
     }
+
+    private static String readKeyPrefix(int orderid) {
+        return "order:" + orderid + ":";
+    }
+
+    // Coalesced callers get their own detached copy instead of the leader's entity
+    private static Orders copyOf(Orders orders) {
+        return new Orders(orders.getOrderid(), orders.getProductname(), orders.getProductprice(),
+                orders.getOrderdate(), orders.getShippingaddress());
+    }
 }
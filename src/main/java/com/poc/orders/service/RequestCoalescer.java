@@ -0,0 +1,109 @@
+package com.poc.orders.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight helper for read lookups.
+ * Concurrent calls with the same key share one in-flight execution and get its result or exception.
+ * A caller that waits longer than the configured timeout stops waiting and runs the lookup itself.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final long timeoutMillis;
+    private final Counter coalescedCalls;
+    private final Counter timedOutCalls;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${orders.coalescing.timeout-ms:2000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.coalescedCalls = meterRegistry.counter("orders.reads.coalesced");
+        this.timedOutCalls = meterRegistry.counter("orders.reads.coalesce.timeouts");
+    }
+
+    /**
+     * Runs the lookup, or joins the one already in flight for the same key.
+     * Callers that join get {@code copyForFollower} applied to the shared result, so no two requests
+     * hold the same mutable (and possibly managed) instance.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> lookup, UnaryOperator<T> copyForFollower) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing == null) {
+            // First caller for this key runs the lookup and publishes the outcome to the waiting callers
+            try {
+                T result = lookup.get();
+                call.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        coalescedCalls.increment();
+        try {
+            T result = (T) existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return result != null ? copyForFollower.apply(result) : null;
+        } catch (TimeoutException e) {
+            timedOutCalls.increment();
+            log.warn("Coalesced lookup {} did not finish within {} ms, querying directly", key, timeoutMillis);
+            return lookup.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for lookup " + key, e);
+        }
+    }
+
+    /**
+     * Detaches the in-flight lookups whose key starts with {@code keyPrefix}, so reads that start later
+     * run their own query. Inside a transaction this happens after commit, otherwise a read could
+     * start between the eviction and the commit and still see the old row.
+     */
+    public void evictAfterCommit(String keyPrefix) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(keyPrefix);
+                }
+            });
+        } else {
+            evict(keyPrefix);
+        }
+    }
+
+    private void evict(String keyPrefix) {
+        inFlight.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+}
@@ -0,0 +1,35 @@
+package com.poc.orders.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlStatementConfig {
+
+    /**
+     * Wraps the DataSource so every statement is seen by {@link SqlStatementListener}.
+     * Static so it is registered before the DataSource bean is created.
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementDataSourceProxy(Environment environment) {
+        long slowThresholdMillis = environment.getProperty("orders.sql.slow-threshold-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementListener(slowThresholdMillis))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
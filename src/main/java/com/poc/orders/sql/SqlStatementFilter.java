@@ -0,0 +1,64 @@
+package com.poc.orders.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts and times the SQL statements of every HTTP request. Requests over the statement budget,
+ * statements repeated with the same bind values and likely N+1 patterns are logged as warnings.
+ */
+@Component
+@Slf4j
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    @Value("${orders.sql.max-statements-per-request:20}")
+    private int maxStatementsPerRequest = 20;
+
+    @Value("${orders.sql.repeat-threshold:2}")
+    private int repeatThreshold = 2;
+
+    @Value("${orders.sql.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold = 10;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementTracker.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementTracker.stop(stats);
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        if (stats.getStatementCount() == 0) {
+            return;
+        }
+        String requestLine = request.getMethod() + " " + request.getRequestURI();
+        log.debug("{} executed {} SQL statements in {} ms", requestLine, stats.getStatementCount(), stats.getTotalTimeMillis());
+
+        if (stats.getStatementCount() > maxStatementsPerRequest) {
+            log.warn("{} exceeded the SQL statement budget: {} statements (max {}) in {} ms", requestLine,
+                    stats.getStatementCount(), maxStatementsPerRequest, stats.getTotalTimeMillis());
+        }
+        for (Map.Entry<String, Integer> repeated : stats.getRepeatedStatements(repeatThreshold).entrySet()) {
+            log.warn("{} executed the same SQL statement with the same bind values {} times: {}", requestLine,
+                    repeated.getValue(), repeated.getKey());
+        }
+        for (Map.Entry<String, Integer> frequent : stats.getFrequentStatements(nPlusOneThreshold).entrySet()) {
+            log.warn("{} executed the same SQL statement {} times, possible N+1: {}", requestLine,
+                    frequent.getValue(), frequent.getKey());
+        }
+    }
+}
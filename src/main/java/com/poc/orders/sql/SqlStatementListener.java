@@ -0,0 +1,67 @@
+package com.poc.orders.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private final long slowThresholdMillis;
+
+    public SqlStatementListener(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        for (QueryInfo queryInfo : queryInfoList) {
+            SqlStatementTracker.record(queryInfo.getQuery(), parametersHash(queryInfo), elapsedMillis);
+        }
+
+        if (elapsedMillis >= slowThresholdMillis) {
+            // Log parameter types only, values may contain customer data
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Slow SQL statement ({} ms): {} params {}", elapsedMillis, queryInfo.getQuery(),
+                        parameterShapes(queryInfo));
+            }
+        }
+    }
+
+    private int parametersHash(QueryInfo queryInfo) {
+        int hash = 1;
+        for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
+            for (ParameterSetOperation operation : parameters) {
+                hash = 31 * hash + Arrays.deepHashCode(operation.getArgs());
+            }
+        }
+        return hash;
+    }
+
+    private String parameterShapes(QueryInfo queryInfo) {
+        return queryInfo.getParametersList().stream()
+                .map(parameters -> parameters.stream()
+                        .map(this::parameterShape)
+                        .collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining(", "));
+    }
+
+    private String parameterShape(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+}
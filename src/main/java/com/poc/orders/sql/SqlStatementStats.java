@@ -0,0 +1,81 @@
+package com.poc.orders.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements executed within one tracked scope (an HTTP request or a test operation).
+ */
+public class SqlStatementStats {
+
+    private final SqlStatementStats parent;
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+    private final Map<Execution, Integer> identicalExecutions = new LinkedHashMap<>();
+    private int statementCount;
+    private long totalTimeMillis;
+
+    SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    void record(String sql, int parametersHash, long elapsedMillis) {
+        statementCount++;
+        totalTimeMillis += elapsedMillis;
+        executions.merge(sql, 1, Integer::sum);
+        identicalExecutions.merge(new Execution(sql, parametersHash), 1, Integer::sum);
+        if (parent != null) {
+            parent.record(sql, parametersHash, elapsedMillis);
+        }
+    }
+
+    SqlStatementStats getParent() {
+        return parent;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalTimeMillis() {
+        return totalTimeMillis;
+    }
+
+    // Execution count per distinct SQL text, in first execution order
+    public Map<String, Integer> getExecutions() {
+        return executions;
+    }
+
+    /**
+     * Statements with the same SQL text executed at least {@code threshold} times, whatever the bind values,
+     * typically an N+1 pattern loading rows one by one. Chunked lookups and paging also repeat their SQL,
+     * so the threshold has to be above their number of chunks or pages per request.
+     */
+    public Map<String, Integer> getFrequentStatements(int threshold) {
+        Map<String, Integer> frequent = new LinkedHashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count >= threshold) {
+                frequent.put(sql, count);
+            }
+        });
+        return frequent;
+    }
+
+    /**
+     * Statements executed at least {@code threshold} times with the same SQL text and the same bind values,
+     * i.e. the same row read or written again. Paging and chunked lookups bind different values each time
+     * and are not reported.
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        identicalExecutions.forEach((execution, count) -> {
+            if (count >= threshold) {
+                repeated.merge(execution.sql(), count, Math::max);
+            }
+        });
+        return repeated;
+    }
+
+    // Bind values are only kept as a hash, they may contain customer data
+    private record Execution(String sql, int parametersHash) {
+    }
+}
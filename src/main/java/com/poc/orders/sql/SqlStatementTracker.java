@@ -0,0 +1,38 @@
+package com.poc.orders.sql;
+
+/**
+ * Thread-bound SQL statement tracking. Every statement executed through the proxied DataSource
+ * on the current thread is recorded in the innermost open scope and all scopes around it.
+ */
+public final class SqlStatementTracker {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementTracker() {
+    }
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void stop(SqlStatementStats stats) {
+        if (stats.getParent() != null) {
+            CURRENT.set(stats.getParent());
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    static void record(String sql, int parametersHash, long elapsedMillis) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql, parametersHash, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.poc.orders.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes warm-up progress under /actuator/warmup.
+ */
+@Component
+@Endpoint(id = "warmup")
+public class WarmupEndpoint {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return warmupRunner.getProgress();
+    }
+}
@@ -0,0 +1,312 @@
+package com.poc.orders.warmup;
+
+import com.poc.orders.entities.Orders;
+import com.poc.orders.repository.OrdersRepositoty;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.util.UriUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the application up before it reports ready.
+ * Spring Boot only publishes ReadinessState.ACCEPTING_TRAFFIC after all ApplicationRunners have finished,
+ * so /actuator/health/readiness stays DOWN while this runs. The embedded server is already listening,
+ * so the request mix goes through the real HTTP stack: Tomcat, Jackson, controller, service and Hibernate.
+ * Only GET requests are replayed, warm-up never changes data.
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    public enum State { PENDING, FILLING_POOL, PRELOADING, REPLAYING, COMPLETED, BUDGET_EXCEEDED, FAILED, DISABLED }
+
+    // Once one of these is set, the state never changes again
+    private static final Set<State> FINAL_STATES =
+            EnumSet.of(State.COMPLETED, State.BUDGET_EXCEEDED, State.FAILED, State.DISABLED);
+
+    @Autowired
+    private OrdersRepositoty ordersRepositoty;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${orders.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${orders.warmup.time-budget-ms:30000}")
+    private long timeBudgetMillis = 30000;
+
+    @Value("${orders.warmup.iterations:200}")
+    private int iterations = 200;
+
+    @Value("${orders.warmup.concurrency:4}")
+    private int concurrency = 4;
+
+    @Value("${orders.warmup.preload-recent:20}")
+    private int preloadRecent = 20;
+
+    // Synthetic mix of GET paths, placeholders are filled from the preloaded orders
+    @Value("${orders.warmup.requests:/orders/{orderid},/orders/findByIdAndName?orderid={orderid}&productname={productname},/orders?ids={orderids}}")
+    private List<String> requestMix = new ArrayList<>();
+
+    // Optional recorded mix, one GET path per line, replaces orders.warmup.requests when set
+    @Value("${orders.warmup.recorded-requests-file:}")
+    private String recordedRequestsFile = "";
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile int plannedRequests;
+    private volatile int poolConnections;
+    private volatile int preloadedOrders;
+    private final AtomicInteger completedRequests = new AtomicInteger();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            finish(State.DISABLED);
+            return;
+        }
+        startedAt = System.currentTimeMillis();
+        long deadline = startedAt + timeBudgetMillis;
+        log.info("Warm-up started, time budget {} ms", timeBudgetMillis);
+
+        // Run on a separate thread so a stalled phase (e.g. waiting for a DB connection) cannot exceed the budget
+        ExecutorService warmupThread = Executors.newSingleThreadExecutor();
+        Future<State> result = warmupThread.submit(() -> warmUp(deadline));
+        try {
+            finish(result.get(timeBudgetMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            finish(State.BUDGET_EXCEEDED);
+        } catch (ExecutionException e) {
+            // A failed warm-up must not keep the instance out of rotation
+            log.warn("Warm-up aborted: {}", e.getCause().getMessage());
+            finish(State.FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(State.BUDGET_EXCEEDED);
+        } finally {
+            warmupThread.shutdownNow();
+        }
+        finishedAt = System.currentTimeMillis();
+        log.info("Warm-up {} in {} ms: {} of {} requests, {} failed", state.get(), finishedAt - startedAt,
+                completedRequests.get(), plannedRequests, failedRequests.get());
+    }
+
+    private State warmUp(long deadline) throws InterruptedException {
+        enterPhase(State.FILLING_POOL);
+        fillConnectionPool(deadline);
+
+        enterPhase(State.PRELOADING);
+        List<Orders> recentOrders = preloadRecentOrders();
+
+        enterPhase(State.REPLAYING);
+        return replay(buildRequests(recentOrders), deadline) ? State.COMPLETED : State.BUDGET_EXCEEDED;
+    }
+
+    private void enterPhase(State phase) throws InterruptedException {
+        // The warm-up thread may still be running after run() gave up on it, it must not replace the final state
+        State previous = state.getAndUpdate(current -> FINAL_STATES.contains(current) ? current : phase);
+        if (FINAL_STATES.contains(previous)) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void finish(State finalState) {
+        state.getAndUpdate(current -> FINAL_STATES.contains(current) ? current : finalState);
+    }
+
+    /**
+     * Opens as many connections as the pool may hold at the same time, so the first requests
+     * do not pay for connection setup.
+     */
+    private void fillConnectionPool(long deadline) {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            // Hikari only knows its final pool size once the pool has started
+            connections.add(dataSource.getConnection());
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            int size = hikari != null ? hikari.getMaximumPoolSize() : concurrency;
+            for (int i = 1; i < size && System.currentTimeMillis() < deadline; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Could not fill the connection pool: {}", e.getMessage());
+        } finally {
+            poolConnections = connections.size();
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Could not return connection to the pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<Orders> preloadRecentOrders() {
+        if (preloadRecent <= 0) {
+            return List.of();
+        }
+        try {
+            List<Orders> recentOrders = ordersRepositoty
+                    .findAll(PageRequest.of(0, preloadRecent, Sort.by(Sort.Direction.DESC, "orderid")))
+                    .getContent();
+            preloadedOrders = recentOrders.size();
+            return recentOrders;
+        } catch (RuntimeException e) {
+            log.warn("Could not preload recent orders: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Fills the placeholders of the request templates. Values are URL-encoded here, the requests are
+     * sent as-is and not expanded as URI templates again.
+     */
+    List<String> buildRequests(List<Orders> recentOrders) {
+        List<String> templates = loadTemplates();
+        List<String> requests = new ArrayList<>();
+        if (templates.isEmpty()) {
+            return requests;
+        }
+        String orderids = recentOrders.isEmpty() ? "1" : recentOrders.stream()
+                .map(order -> String.valueOf(order.getOrderid()))
+                .collect(Collectors.joining(","));
+
+        for (int i = 0; i < iterations; i++) {
+            String template = templates.get(i % templates.size());
+            // Without data the lookups hit the not-found path, which is still worth compiling
+            Orders order = recentOrders.isEmpty() ? null : recentOrders.get(i % recentOrders.size());
+            String productname = order != null && order.getProductname() != null ? order.getProductname() : "";
+            requests.add(template
+                    .replace("{orderid}", order != null ? String.valueOf(order.getOrderid()) : "1")
+                    .replace("{productname}", UriUtils.encode(productname, StandardCharsets.UTF_8))
+                    .replace("{orderids}", orderids));
+        }
+        return requests;
+    }
+
+    private List<String> loadTemplates() {
+        if (recordedRequestsFile == null || recordedRequestsFile.isBlank()) {
+            return requestMix.stream().map(String::trim).filter(path -> !path.isEmpty()).toList();
+        }
+        try {
+            return Files.readAllLines(Path.of(recordedRequestsFile)).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not read recorded warm-up requests {}: {}", recordedRequestsFile, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private boolean replay(List<String> requests, long deadline) throws InterruptedException {
+        plannedRequests = requests.size();
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || requests.isEmpty()) {
+            return true;
+        }
+        RestClient restClient = createRestClient(deadline);
+        String baseUrl = "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        try {
+            for (String request : requests) {
+                executor.execute(() -> {
+                    if (System.currentTimeMillis() < deadline) {
+                        send(restClient, baseUrl + request);
+                    }
+                });
+            }
+            executor.shutdown();
+            long remaining = deadline - System.currentTimeMillis();
+            return executor.awaitTermination(Math.max(0, remaining), TimeUnit.MILLISECONDS)
+                    && completedRequests.get() == plannedRequests;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RestClient createRestClient(long deadline) {
+        int timeout = (int) Math.max(1000, Math.min(5000, deadline - System.currentTimeMillis()));
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    private void send(RestClient restClient, String request) {
+        try {
+            // A URI is sent unchanged, a String would be expanded and encoded a second time
+            restClient.get().uri(URI.create(request)).retrieve().toBodilessEntity();
+        } catch (RestClientResponseException e) {
+            // 404 for unknown ids is an expected answer, it still exercised the full path
+            if (e.getStatusCode().is5xxServerError()) {
+                failedRequests.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            failedRequests.incrementAndGet();
+            log.debug("Warm-up request {} failed: {}", request, e.getMessage());
+        }
+        completedRequests.incrementAndGet();
+    }
+
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("state", state.get());
+        progress.put("plannedRequests", plannedRequests);
+        progress.put("completedRequests", completedRequests.get());
+        progress.put("failedRequests", failedRequests.get());
+        progress.put("poolConnections", poolConnections);
+        progress.put("preloadedOrders", preloadedOrders);
+        progress.put("timeBudgetMs", timeBudgetMillis);
+        if (startedAt > 0) {
+            long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            progress.put("elapsedMs", end - startedAt);
+        }
+        return progress;
+    }
+}
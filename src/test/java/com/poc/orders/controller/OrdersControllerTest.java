@@ -3,6 +3,8 @@ package com.poc.orders.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.poc.orders.entities.Orders;
 import com.poc.orders.exception.OrderNotFoundException;
+import com.poc.orders.response.OrderLookupResult;
+import com.poc.orders.service.OrderChangeStream;
 import com.poc.orders.service.OrdersService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.sql.Date;
 import java.util.ArrayList;
@@ -21,6 +24,8 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -35,6 +40,9 @@ class OrdersControllerTest {
     @Mock
     private OrdersService ordersService;
 
+    @Mock
+    private OrderChangeStream orderChangeStream;
+
     @InjectMocks
     private OrdersController ordersController;
 
@@ -137,4 +145,90 @@ class OrdersControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Order with ID 1 deleted successfully."));
     }
+
+    @Test
+    void streamChanges_ShouldResumeFromLastEventId() throws Exception {
+        when(orderChangeStream.subscribe(42L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/orders/changes")
+                        .header("Last-Event-ID", "42")
+                        .param("since", "7"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(orderChangeStream).subscribe(42L);
+    }
+
+    @Test
+    void streamChanges_ShouldUseSinceParameter_WhenNoLastEventId() throws Exception {
+        when(orderChangeStream.subscribe(7L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/orders/changes").param("since", "7"))
+                .andExpect(request().asyncStarted());
+
+        verify(orderChangeStream).subscribe(7L);
+    }
+
+    @Test
+    void getOrdersByIds_ShouldReturnResultsInRequestOrder() throws Exception {
+        when(ordersService.getOrdersByIds(List.of(2, 1))).thenReturn(List.of(
+                new OrderLookupResult(2, false, null),
+                new OrderLookupResult(1, true, order)));
+
+        mockMvc.perform(get("/orders").param("ids", "2,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].orderid").value(2))
+                .andExpect(jsonPath("$[0].found").value(false))
+                .andExpect(jsonPath("$[1].order.productname").value("Mobile Phone"));
+    }
+
+    @Test
+    void lookupOrdersByIds_ShouldReadIdsFromBody() throws Exception {
+        when(ordersService.getOrdersByIds(List.of(1))).thenReturn(List.of(new OrderLookupResult(1, true, order)));
+
+        mockMvc.perform(post("/orders/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].found").value(true));
+    }
+
+    @Test
+    void lookupOrdersByIds_ShouldReturnBadRequest_WhenNoIds() throws Exception {
+        mockMvc.perform(post("/orders/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(ordersService, never()).getOrdersByIds(any());
+    }
+
+    @Test
+    void lookupOrdersByIds_ShouldReturnBadRequest_WhenMoreThanMaxIds() throws Exception {
+        StringBuilder ids = new StringBuilder("[1");
+        for (int i = 2; i <= 501; i++) {
+            ids.append(',').append(i);
+        }
+        ids.append(']');
+
+        mockMvc.perform(post("/orders/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(ordersService, never()).getOrdersByIds(any());
+    }
+
+    @Test
+    void lookupOrdersByIds_ShouldReturnBadRequest_WhenIdIsNull() throws Exception {
+        mockMvc.perform(post("/orders/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(ordersService, never()).getOrdersByIds(any());
+    }
 }
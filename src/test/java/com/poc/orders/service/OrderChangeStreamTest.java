@@ -0,0 +1,207 @@
+package com.poc.orders.service;
+
+import com.poc.orders.entities.OrderEvent;
+import com.poc.orders.entities.OrderEventType;
+import com.poc.orders.repository.OrderEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OrderChangeStreamTest {
+
+    @Spy
+    @InjectMocks
+    private OrderChangeStream orderChangeStream;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @Mock
+    private SseEmitter emitter;
+
+    // Committed rows of the outbox, queried by the repository stubs below
+    private final List<OrderEvent> outbox = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Run fan-out tasks on the calling thread so every poll is fully delivered when it returns
+        ReflectionTestUtils.setField(orderChangeStream, "fanoutExecutor", (Executor) Runnable::run);
+        doReturn(emitter).when(orderChangeStream).createEmitter();
+
+        when(orderEventRepository.findTop500ByEventidGreaterThanOrderByEventidAsc(anyLong())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(0);
+            return outbox.stream().filter(event -> event.getEventid() > offset).limit(OrderChangeStream.PAGE_SIZE).toList();
+        });
+        when(orderEventRepository.findTopByOrderByEventidDesc()).thenAnswer(invocation ->
+                outbox.stream().reduce((first, second) -> second).orElse(null));
+        when(orderEventRepository.findTopByCreatedatGreaterThanEqualOrderByEventidAsc(any())).thenAnswer(invocation -> {
+            Timestamp from = invocation.getArgument(0);
+            return outbox.stream().filter(event -> !event.getCreatedat().before(from)).findFirst().orElse(null);
+        });
+    }
+
+    @Test
+    void subscribe_ShouldResumeAfterLastEventId_WhenOffsetIsOld() throws IOException {
+        addEvents(1, 5, minutesAgo(10));
+        orderChangeStream.poll();
+
+        orderChangeStream.subscribe(2L);
+        // Nothing is sent on the request thread, the backlog follows with the next poll
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+
+        orderChangeStream.poll();
+
+        assertEquals(List.of("id:3", "id:4", "id:5"), sentLines("id:"));
+    }
+
+    @Test
+    void subscribe_ShouldStartAtHead_WhenNoOffsetIsGiven() throws IOException {
+        addEvents(1, 3, minutesAgo(10));
+        orderChangeStream.poll();
+
+        orderChangeStream.subscribe(null);
+        addEvents(4, 4, minutesAgo(1));
+        orderChangeStream.poll();
+
+        assertEquals(List.of("id:4"), sentLines("id:"));
+    }
+
+    @Test
+    void subscribe_ShouldSendResyncEvent_WhenOffsetIsOlderThanMaxResume() throws IOException {
+        addEvents(1, 2, minutesAgo(120));
+        addEvents(3, 3, minutesAgo(10));
+
+        orderChangeStream.subscribe(0L);
+        orderChangeStream.poll();
+
+        assertEquals(List.of("event:" + OrderChangeStream.RESYNC_EVENT, "event:ORDER_CREATED"), sentLines("event:"));
+        assertEquals(List.of("id:3"), sentLines("id:"));
+    }
+
+    @Test
+    void poll_ShouldHoldBackEvents_WhileEarlierIdIsMissing() throws IOException {
+        addEvents(1, 1, minutesAgo(10));
+        orderChangeStream.poll();
+        orderChangeStream.subscribe(null);
+
+        // Event 3 committed first, the transaction that inserted event 2 is still open
+        addEvents(3, 3, minutesAgo(1));
+        orderChangeStream.poll();
+        assertTrue(sentLines("id:").isEmpty());
+
+        outbox.add(1, new OrderEvent(2, 2, OrderEventType.ORDER_UPDATED, "{\"orderid\":2}", minutesAgo(1)));
+        orderChangeStream.poll();
+        assertEquals(List.of("id:2", "id:3"), sentLines("id:"));
+    }
+
+    @Test
+    void poll_ShouldSkipMissingId_WhenGapTimeoutHasPassed() throws IOException {
+        ReflectionTestUtils.setField(orderChangeStream, "gapTimeoutMillis", 0L);
+        addEvents(1, 1, minutesAgo(10));
+        orderChangeStream.poll();
+        orderChangeStream.subscribe(null);
+
+        // Event 2 was rolled back and never appears
+        addEvents(3, 4, minutesAgo(1));
+        orderChangeStream.poll();
+
+        assertEquals(List.of("id:3", "id:4"), sentLines("id:"));
+    }
+
+    @Test
+    void poll_ShouldKeepPaging_WhenPageIsFull() throws IOException {
+        orderChangeStream.poll();
+        orderChangeStream.subscribe(null);
+
+        addEvents(1, 1200, minutesAgo(1));
+        orderChangeStream.poll();
+
+        verify(orderEventRepository).findTop500ByEventidGreaterThanOrderByEventidAsc(500L);
+        verify(orderEventRepository).findTop500ByEventidGreaterThanOrderByEventidAsc(1000L);
+        List<String> ids = sentLines("id:");
+        assertEquals(1200, ids.size());
+        assertEquals("id:1200", ids.get(ids.size() - 1));
+    }
+
+    @Test
+    void poll_ShouldRemoveSubscriber_WhenSendFails() throws IOException {
+        addEvents(1, 1, minutesAgo(10));
+        orderChangeStream.poll();
+        orderChangeStream.subscribe(0L);
+        assertEquals(1, orderChangeStream.getSubscriberCount());
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        orderChangeStream.poll();
+
+        assertEquals(0, orderChangeStream.getSubscriberCount());
+        // The client is gone, the emitter is completed quietly instead of dispatching an error
+        verify(emitter).complete();
+        verify(emitter, never()).completeWithError(any());
+
+        // A removed subscriber is not sent to again
+        addEvents(2, 2, minutesAgo(1));
+        orderChangeStream.poll();
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void subscribe_ShouldCompleteEmitter_WhenItTimesOut() {
+        orderChangeStream.subscribe(null);
+        ArgumentCaptor<Runnable> onTimeout = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitter).onTimeout(onTimeout.capture());
+
+        onTimeout.getValue().run();
+
+        assertEquals(0, orderChangeStream.getSubscriberCount());
+        verify(emitter).complete();
+        verify(emitter, never()).completeWithError(any());
+    }
+
+    private void addEvents(long fromId, long toId, Timestamp createdat) {
+        for (long id = fromId; id <= toId; id++) {
+            outbox.add(new OrderEvent(id, (int) id, OrderEventType.ORDER_CREATED, "{\"orderid\":" + id + "}", createdat));
+        }
+    }
+
+    private static Timestamp minutesAgo(long minutes) {
+        return new Timestamp(System.currentTimeMillis() - Duration.ofMinutes(minutes).toMillis());
+    }
+
+    // Lines of the sent SSE frames that start with the given field, e.g. "id:3"
+    private List<String> sentLines(String field) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> sent = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeast(0)).send(sent.capture());
+        List<String> lines = new ArrayList<>();
+        for (SseEmitter.SseEventBuilder builder : sent.getAllValues()) {
+            StringBuilder frame = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                frame.append(part.getData());
+            }
+            for (String line : frame.toString().split("\n")) {
+                if (line.startsWith(field)) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,160 @@
+package com.poc.orders.service;
+
+import com.poc.orders.entities.Orders;
+import com.poc.orders.repository.OrderEventRepository;
+import com.poc.orders.repository.OrdersRepositoty;
+import com.poc.orders.sql.SqlStatementConfig;
+import com.poc.orders.sql.SqlStatementFilter;
+import com.poc.orders.sql.SqlStatementStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.poc.orders.support.SqlStatementAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement budgets per service operation, run against an in-memory database.
+ * Not transactional itself, so every service call commits and its flush is counted.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({SqlStatementConfig.class, OrdersServiceImpl.class, RequestCoalescer.class, OrderEventPublisher.class})
+class OrdersServiceImplSqlBudgetTest {
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private OrdersService ordersService;
+
+    @Autowired
+    private OrdersRepositoty ordersRepositoty;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    private Orders order;
+
+    @BeforeEach
+    void setUp() {
+        order = ordersRepositoty.save(new Orders(0, "Product A", 100.0, Date.valueOf("2024-01-01"), "Pune"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderEventRepository.deleteAll();
+        ordersRepositoty.deleteAll();
+    }
+
+    @Test
+    void getOrderById_ShouldUseOneStatement() {
+        Orders result = assertMaxStatements(1, () -> ordersService.getOrderById(order.getOrderid()));
+
+        assertEquals("Product A", result.getProductname());
+    }
+
+    @Test
+    void getOrdersByIds_ShouldUseOneStatementPerChunk() {
+        assertMaxStatements(1, () -> ordersService.getOrdersByIds(List.of(order.getOrderid(), -1, order.getOrderid())));
+    }
+
+    @Test
+    void getOrdersByIds_ShouldNotReportChunksAsRepeated() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            ids.add(i);
+        }
+
+        // The same IN query runs once per chunk, but with different ids each time
+        SqlStatementStats stats = assertNoRepeatedStatements(() -> ordersService.getOrdersByIds(ids));
+
+        assertEquals(3, stats.getStatementCount());
+    }
+
+    @Test
+    void getOrdersByIds_ShouldNotReportMaxIdsAsNPlusOne() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            ids.add(i);
+        }
+
+        SqlStatementStats stats = assertNoNPlusOne(10, () -> ordersService.getOrdersByIds(ids));
+
+        assertEquals(5, stats.getStatementCount());
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    void getOrderById_ShouldBeReportedAsNPlusOne_WhenOrdersAreLoadedOneByOne(CapturedOutput output) throws Exception {
+        List<Integer> ids = new ArrayList<>(List.of(order.getOrderid()));
+        for (int i = 0; i < 11; i++) {
+            ids.add(ordersRepositoty.save(new Orders(0, "Product " + i, 10.0 + i, Date.valueOf("2024-01-01"), "Pune")).getOrderid());
+        }
+        Runnable loadOneByOne = () -> ids.forEach(ordersService::getOrderById);
+
+        new SqlStatementFilter().doFilter(new MockHttpServletRequest("GET", "/orders/report"), new MockHttpServletResponse(),
+                (request, response) -> loadOneByOne.run());
+
+        assertTrue(output.getOut().contains("GET /orders/report executed the same SQL statement 12 times, possible N+1"));
+        assertThrows(AssertionFailedError.class, () -> assertNoNPlusOne(10, loadOneByOne));
+    }
+
+    @Test
+    void getOrderById_ShouldReportRepeatedStatement_WhenSameRowIsReadTwice() {
+        SqlStatementStats stats = track(() -> {
+            ordersService.getOrderById(order.getOrderid());
+            ordersService.getOrderById(order.getOrderid());
+        });
+
+        assertEquals(List.of(2), List.copyOf(stats.getRepeatedStatements(2).values()));
+    }
+
+    @Test
+    void placeOrder_ShouldInsertOrderAndEvent() {
+        Orders newOrder = new Orders(0, "Product B", 150.0, Date.valueOf("2024-01-10"), "Mumbai");
+
+        assertMaxStatements(2, () -> ordersService.placeOrder(newOrder));
+    }
+
+    @Test
+    void updateOrderById_ShouldSelectUpdateAndInsertEvent() {
+        Orders updatedOrder = new Orders(0, "Product B", 150.0, Date.valueOf("2024-01-10"), "Mumbai");
+
+        SqlStatementStats stats = assertNoRepeatedStatements(() -> ordersService.updateOrderById(updatedOrder, order.getOrderid()));
+
+        assertEquals(3, stats.getStatementCount());
+    }
+
+    @Test
+    void deleteOrderById_ShouldStayWithinBudget() {
+        assertMaxStatements(3, () -> ordersService.deleteOrderById(order.getOrderid()));
+    }
+}
@@ -1,18 +1,31 @@
 package com.poc.orders.service;
 
+import com.poc.orders.entities.OrderEventType;
 import com.poc.orders.entities.Orders;
 import com.poc.orders.exception.OrderNotFoundException;
 import com.poc.orders.repository.OrdersRepositoty;
+import com.poc.orders.response.OrderLookupResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +38,14 @@ class OrdersServiceImplTest {
     @Mock
     private OrdersRepositoty ordersRepositoty;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(meterRegistry, 2000);
+
+    @Mock
+    private OrderEventPublisher orderEventPublisher;
+
     private Orders order;
 
     @BeforeEach
@@ -132,7 +153,7 @@ class OrdersServiceImplTest {
 
         ordersService.deleteOrderById(1);
 
-        verify(ordersRepositoty, times(1)).deleteByOrderid(1);
+        verify(ordersRepositoty, times(1)).delete(order);
     }
 
     @Test
@@ -145,4 +166,217 @@ class OrdersServiceImplTest {
 
         assertEquals("Order with ID 1 not found.", exception.getMessage());
     }
+
+    @Test
+    void getOrderById_ShouldShareOneQuery_WhenCalledConcurrently() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(ordersRepositoty.findByOrderid(1)).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return order;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Orders> first = executor.submit(() -> ordersService.getOrderById(1));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            Future<Orders> second = executor.submit(() -> ordersService.getOrderById(1));
+            awaitCoalescedCalls(1); // the second call has joined the in-flight query
+            releaseQuery.countDown();
+
+            assertSame(order, first.get(5, TimeUnit.SECONDS));
+            Orders shared = second.get(5, TimeUnit.SECONDS);
+            assertEquals(order, shared);
+            assertNotSame(order, shared); // followers get their own copy
+
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(ordersRepositoty, times(1)).findByOrderid(1);
+    }
+
+    @Test
+    void findByIdAndProductname_ShouldShareException_WhenCalledConcurrently() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(ordersRepositoty.findByOrderidAndProductname(1, "Product A")).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Orders> first = executor.submit(() -> ordersService.findByIdAndProductname(1, "Product A"));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            Future<Orders> second = executor.submit(() -> ordersService.findByIdAndProductname(1, "Product A"));
+            awaitCoalescedCalls(1);
+            releaseQuery.countDown();
+
+            Exception firstException = assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+            Exception secondException = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(OrderNotFoundException.class, firstException.getCause());
+            assertInstanceOf(OrderNotFoundException.class, secondException.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(ordersRepositoty, times(1)).findByOrderidAndProductname(1, "Product A");
+    }
+
+    @Test
+    void getOrderById_ShouldNotJoinEarlierRead_AfterEviction() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        when(ordersRepositoty.findByOrderid(1)).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                queryStarted.countDown();
+                releaseQuery.await(5, TimeUnit.SECONDS);
+            }
+            return order;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Orders> first = executor.submit(() -> ordersService.getOrderById(1));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+
+            // What a committed update or delete does, the next read must run its own query
+            requestCoalescer.evictAfterCommit("order:1:");
+            ordersService.getOrderById(1);
+
+            releaseQuery.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(ordersRepositoty, times(2)).findByOrderid(1);
+        assertEquals(0, meterRegistry.counter("orders.reads.coalesced").count());
+    }
+
+    @Test
+    void updateOrderById_ShouldEvictInFlightReads() {
+        when(ordersRepositoty.findByOrderid(1)).thenReturn(order);
+        when(ordersRepositoty.save(order)).thenReturn(order);
+
+        ordersService.updateOrderById(order, 1);
+
+        verify(requestCoalescer).evictAfterCommit("order:1:");
+    }
+
+    @Test
+    void deleteOrderById_ShouldEvictInFlightReads() {
+        when(ordersRepositoty.findByOrderid(1)).thenReturn(order);
+
+        ordersService.deleteOrderById(1);
+
+        verify(requestCoalescer).evictAfterCommit("order:1:");
+    }
+
+    @Test
+    void getOrderById_ShouldQueryAgain_WhenPreviousCallFinished() {
+        when(ordersRepositoty.findByOrderid(1)).thenReturn(order);
+
+        ordersService.getOrderById(1);
+        ordersService.getOrderById(1);
+
+        verify(ordersRepositoty, times(2)).findByOrderid(1);
+    }
+
+    @Test
+    void placeOrder_ShouldPublishCreatedEvent() {
+        when(ordersRepositoty.save(order)).thenReturn(order);
+
+        ordersService.placeOrder(order);
+
+        verify(orderEventPublisher, times(1)).publish(OrderEventType.ORDER_CREATED, order);
+    }
+
+    @Test
+    void updateOrderById_ShouldPublishUpdatedEvent() {
+        when(ordersRepositoty.findByOrderid(1)).thenReturn(order);
+        when(ordersRepositoty.save(order)).thenReturn(order);
+
+        ordersService.updateOrderById(order, 1);
+
+        verify(orderEventPublisher, times(1)).publish(OrderEventType.ORDER_UPDATED, order);
+    }
+
+    @Test
+    void deleteOrderById_ShouldPublishDeletedEvent() {
+        when(ordersRepositoty.findByOrderid(1)).thenReturn(order);
+
+        ordersService.deleteOrderById(1);
+
+        verify(orderEventPublisher, times(1)).publish(OrderEventType.ORDER_DELETED, order);
+    }
+
+    @Test
+    void deleteOrderById_ShouldNotPublish_WhenOrderNotFound() {
+        when(ordersRepositoty.findByOrderid(1)).thenReturn(null);
+
+        assertThrows(OrderNotFoundException.class, () -> ordersService.deleteOrderById(1));
+
+        verifyNoInteractions(orderEventPublisher);
+    }
+
+    @Test
+    void getOrdersByIds_ShouldKeepRequestOrder_AndReportMissingIds() {
+        Orders secondOrder = new Orders();
+        secondOrder.setOrderid(3);
+        secondOrder.setProductname("Product C");
+        when(ordersRepositoty.findByOrderidIn(anyCollection())).thenReturn(List.of(order, secondOrder));
+
+        List<OrderLookupResult> results = ordersService.getOrdersByIds(List.of(3, 2, 1, 3));
+
+        assertEquals(4, results.size());
+        assertEquals(3, results.get(0).getOrderid());
+        assertSame(secondOrder, results.get(0).getOrder());
+        assertEquals(2, results.get(1).getOrderid());
+        assertFalse(results.get(1).isFound());
+        assertNull(results.get(1).getOrder());
+        assertSame(order, results.get(2).getOrder());
+        assertSame(secondOrder, results.get(3).getOrder());
+        verify(ordersRepositoty, times(1)).findByOrderidIn(List.of(3, 2, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getOrdersByIds_ShouldQueryInChunks() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            ids.add(i);
+        }
+        when(ordersRepositoty.findByOrderidIn(anyCollection())).thenReturn(new ArrayList<>());
+
+        List<OrderLookupResult> results = ordersService.getOrdersByIds(ids);
+
+        ArgumentCaptor<Collection<Integer>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(ordersRepositoty, times(3)).findByOrderidIn(chunks.capture());
+        assertEquals(100, chunks.getAllValues().get(0).size());
+        assertEquals(100, chunks.getAllValues().get(1).size());
+        assertEquals(50, chunks.getAllValues().get(2).size());
+        assertEquals(250, results.size());
+        assertTrue(results.stream().noneMatch(OrderLookupResult::isFound));
+    }
+
+    @Test
+    void getOrdersByIds_ShouldQueryOneIdAtATime_WhenChunkSizeIsNotPositive() {
+        ReflectionTestUtils.setField(ordersService, "lookupChunkSize", 0);
+        when(ordersRepositoty.findByOrderidIn(anyCollection())).thenReturn(new ArrayList<>());
+
+        List<OrderLookupResult> results = ordersService.getOrdersByIds(List.of(1, 2, 3));
+
+        verify(ordersRepositoty, times(3)).findByOrderidIn(anyCollection());
+        assertEquals(3, results.size());
+    }
+
+    private void awaitCoalescedCalls(double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("orders.reads.coalesced").count() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for a coalesced call");
+            Thread.sleep(1);
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.poc.orders.support;
+
+import com.poc.orders.sql.SqlStatementStats;
+import com.poc.orders.sql.SqlStatementTracker;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement budget assertions for integration tests running against the proxied DataSource.
+ *
+ * <pre>
+ * Orders order = assertMaxStatements(1, () -> ordersService.getOrderById(id));
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static SqlStatementStats track(Runnable operation) {
+        SqlStatementStats stats = SqlStatementTracker.start();
+        try {
+            operation.run();
+        } finally {
+            SqlStatementTracker.stop(stats);
+        }
+        return stats;
+    }
+
+    public static <T> T assertMaxStatements(int maxStatements, Supplier<T> operation) {
+        Object[] result = new Object[1];
+        assertMaxStatements(maxStatements, () -> {
+            result[0] = operation.get();
+        });
+        @SuppressWarnings("unchecked")
+        T typedResult = (T) result[0];
+        return typedResult;
+    }
+
+    public static SqlStatementStats assertMaxStatements(int maxStatements, Runnable operation) {
+        SqlStatementStats stats = track(operation);
+        assertTrue(stats.getStatementCount() <= maxStatements, () -> "Expected at most " + maxStatements
+                + " SQL statements but " + stats.getStatementCount() + " were executed:\n" + describe(stats.getExecutions()));
+        return stats;
+    }
+
+    public static SqlStatementStats assertNoRepeatedStatements(Runnable operation) {
+        SqlStatementStats stats = track(operation);
+        Map<String, Integer> repeated = stats.getRepeatedStatements(2);
+        assertTrue(repeated.isEmpty(), () -> "Expected no repeated SQL statements but found:\n" + describe(repeated));
+        return stats;
+    }
+
+    /**
+     * Fails when one SQL text runs {@code maxExecutions} times or more with any bind values, e.g. rows loaded one by one.
+     */
+    public static SqlStatementStats assertNoNPlusOne(int maxExecutions, Runnable operation) {
+        SqlStatementStats stats = track(operation);
+        Map<String, Integer> frequent = stats.getFrequentStatements(maxExecutions);
+        assertTrue(frequent.isEmpty(), () -> "Expected no SQL statement executed " + maxExecutions
+                + " times or more but found:\n" + describe(frequent));
+        return stats;
+    }
+
+    private static String describe(Map<String, Integer> executions) {
+        return executions.entrySet().stream()
+                .map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
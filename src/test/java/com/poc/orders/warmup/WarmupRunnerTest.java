@@ -0,0 +1,165 @@
+package com.poc.orders.warmup;
+
+import com.poc.orders.entities.Orders;
+import com.poc.orders.repository.OrdersRepositoty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WarmupRunnerTest {
+
+    @InjectMocks
+    private WarmupRunner warmupRunner;
+
+    @Mock
+    private OrdersRepositoty ordersRepositoty;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Environment environment;
+
+    @Mock
+    private Connection connection;
+
+    private Orders order;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(warmupRunner, "iterations", 4);
+        ReflectionTestUtils.setField(warmupRunner, "requestMix",
+                List.of("/orders/{orderid}", "/orders/findByIdAndName?orderid={orderid}&productname={productname}", "/orders?ids={orderids}"));
+
+        order = new Orders(7, "Mobile Phone", 25999.9, Date.valueOf("2024-10-25"), "Pune");
+    }
+
+    @Test
+    void buildRequests_ShouldFillPlaceholdersFromRecentOrders() {
+        Orders secondOrder = new Orders(3, "Laptop", 55000.0, Date.valueOf("2024-10-20"), "Mumbai");
+
+        List<String> requests = warmupRunner.buildRequests(List.of(order, secondOrder));
+
+        assertEquals(List.of(
+                "/orders/7",
+                "/orders/findByIdAndName?orderid=3&productname=Laptop",
+                "/orders?ids=7,3",
+                "/orders/3"), requests);
+    }
+
+    @Test
+    void buildRequests_ShouldEncodeProductName() {
+        Orders order = new Orders(5, "Tea & Biscuits 50%", 120.0, Date.valueOf("2024-10-20"), "Pune");
+        ReflectionTestUtils.setField(warmupRunner, "iterations", 2);
+
+        List<String> requests = warmupRunner.buildRequests(List.of(order));
+
+        assertEquals("/orders/findByIdAndName?orderid=5&productname=Tea%20%26%20Biscuits%2050%25", requests.get(1));
+    }
+
+    @Test
+    void buildRequests_ShouldUseFallbackId_WhenNoOrdersExist() {
+        List<String> requests = warmupRunner.buildRequests(List.of());
+
+        assertEquals("/orders/1", requests.get(0));
+        assertEquals("/orders?ids=1", requests.get(2));
+    }
+
+    @Test
+    void buildRequests_ShouldUseRecordedRequests_WhenFileConfigured() throws IOException {
+        Path recorded = Files.createTempFile("warmup", ".txt");
+        Files.writeString(recorded, "# recorded from access log\n/orders/{orderid}\n\n/orders/allOrders\n");
+        ReflectionTestUtils.setField(warmupRunner, "recordedRequestsFile", recorded.toString());
+
+        List<String> requests = warmupRunner.buildRequests(List.of(order));
+
+        assertEquals(List.of("/orders/7", "/orders/allOrders", "/orders/7", "/orders/allOrders"), requests);
+        Files.delete(recorded);
+    }
+
+    @Test
+    void run_ShouldReportDisabled_WhenWarmupDisabled() {
+        ReflectionTestUtils.setField(warmupRunner, "enabled", false);
+
+        warmupRunner.run(null);
+
+        Map<String, Object> progress = warmupRunner.getProgress();
+        assertEquals(WarmupRunner.State.DISABLED, progress.get("state"));
+    }
+
+    @Test
+    void run_ShouldReportProgress_WhenWarmupCompletes() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(ordersRepositoty.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(order)));
+
+        warmupRunner.run(null);
+
+        // No server port in a unit test, so the planned requests are built but not sent
+        Map<String, Object> progress = warmupRunner.getProgress();
+        assertEquals(WarmupRunner.State.COMPLETED, progress.get("state"));
+        assertEquals(4, progress.get("plannedRequests"));
+        assertEquals(0, progress.get("completedRequests"));
+        assertEquals(0, progress.get("failedRequests"));
+        assertEquals(4, progress.get("poolConnections"));
+        assertEquals(1, progress.get("preloadedOrders"));
+        assertEquals(30000L, progress.get("timeBudgetMs"));
+        assertTrue(progress.containsKey("elapsedMs"));
+        verify(connection, times(4)).close();
+    }
+
+    @Test
+    void run_ShouldReportFailed_WhenWarmupThrows() throws Exception {
+        when(dataSource.getConnection()).thenThrow(new IllegalStateException("Pool is closed"));
+
+        warmupRunner.run(null);
+
+        assertEquals(WarmupRunner.State.FAILED, warmupRunner.getProgress().get("state"));
+        verify(ordersRepositoty, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void run_ShouldKeepBudgetExceeded_WhenWarmupThreadContinuesLate() throws Exception {
+        ReflectionTestUtils.setField(warmupRunner, "timeBudgetMillis", 200L);
+        CountDownLatch release = new CountDownLatch(1);
+        // A connection attempt that ignores the interrupt and only returns after run() has given up
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    // keep waiting, like a driver that does not react to interrupts
+                }
+            }
+            return connection;
+        });
+
+        warmupRunner.run(null);
+        assertEquals(WarmupRunner.State.BUDGET_EXCEEDED, warmupRunner.getProgress().get("state"));
+
+        release.countDown();
+        verify(connection, timeout(5000).atLeastOnce()).close();
+        verify(ordersRepositoty, after(300).never()).findAll(any(Pageable.class));
+        assertEquals(WarmupRunner.State.BUDGET_EXCEEDED, warmupRunner.getProgress().get("state"));
+    }
+}